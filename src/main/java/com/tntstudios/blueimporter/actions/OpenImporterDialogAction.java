@@ -2,13 +2,17 @@ package com.tntstudios.blueimporter.actions;
 
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
 import com.tntstudios.blueimporter.ui.ImporterDialog;
 
 public class OpenImporterDialogAction extends AnAction {
     @Override
     public void actionPerformed(AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+
         // Crear y mostrar la ventana
-        ImporterDialog dialog = new ImporterDialog();
+        ImporterDialog dialog = new ImporterDialog(project);
         dialog.show();
     }
 }
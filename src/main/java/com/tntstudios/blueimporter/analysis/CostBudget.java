@@ -0,0 +1,28 @@
+package com.tntstudios.blueimporter.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Límites configurables a partir de los cuales un modelo se marca como costoso.
+ * Un valor de 0 o negativo desactiva ese límite.
+ */
+public record CostBudget(int maxElements,
+                         int maxFaces,
+                         long maxTexturePixels,
+                         int maxShapeBoxes) {
+
+    public static final CostBudget DEFAULT = new CostBudget(64, 384, 256L * 256L, 16);
+
+    /**
+     * Lista legible de los límites que supera el modelo; vacía si está dentro de presupuesto.
+     */
+    public List<String> violations(ModelCost cost) {
+        List<String> out = new ArrayList<>();
+        if (maxElements > 0 && cost.elements() > maxElements) out.add("elementos");
+        if (maxFaces > 0 && cost.faces() > maxFaces) out.add("caras");
+        if (maxTexturePixels > 0 && cost.texturePixels() > maxTexturePixels) out.add("píxeles");
+        if (maxShapeBoxes > 0 && cost.shapeBoxes() > maxShapeBoxes) out.add("cajas");
+        return out;
+    }
+}
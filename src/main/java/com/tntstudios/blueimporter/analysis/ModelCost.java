@@ -0,0 +1,121 @@
+package com.tntstudios.blueimporter.analysis;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.tntstudios.blueimporter.generator.ModelResolver;
+import com.tntstudios.blueimporter.generator.ModelShapes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Perfil de coste de render de un modelo: cuánto pesa en geometría, texturas y colisión.
+ *
+ * @param namespace     mod id al que pertenece el modelo (carpeta de assets)
+ * @param tipo          "block" o "item"
+ * @param name          nombre del modelo (sin extensión)
+ * @param elements      número de cuboides del modelo (incluidos los heredados del "parent")
+ * @param faces         número de caras declaradas en todos los cuboides
+ * @param textures      texturas distintas referenciadas
+ * @param texturePixels suma de ancho × alto de las texturas encontradas en disco
+ * @param shapeBoxes    cajas que tendrá la VoxelShape generada (0 para items)
+ * @param source        fichero JSON del que se ha calculado el perfil
+ */
+public record ModelCost(String namespace,
+                        String tipo,
+                        String name,
+                        int elements,
+                        int faces,
+                        int textures,
+                        long texturePixels,
+                        int shapeBoxes,
+                        Path source) {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * Entrada tal como la usa la lista de generación ("block/silla").
+     */
+    public String entry() {
+        return tipo + "/" + name;
+    }
+
+    /**
+     * El mismo modelo usado como item; sin VoxelShape porque los items no la generan.
+     */
+    public ModelCost asItem() {
+        return new ModelCost(namespace, "item", name, elements, faces, textures, texturePixels, 0, source);
+    }
+
+    /**
+     * Analiza un modelo JSON. Las texturas y los "parent" se resuelven contra {@code assetsDir}
+     * (la carpeta "assets" que contiene un directorio por namespace) con {@link ModelResolver}.
+     * Si el fichero no existe o no es JSON válido se devuelve un perfil vacío.
+     */
+    public static ModelCost analyze(String namespace, String tipo, String name, Path modelFile, Path assetsDir) {
+        JsonObject model = ModelResolver.resolve(modelFile, assetsDir);
+        if (model == null) {
+            return new ModelCost(namespace, tipo, name, 0, 0, 0, 0, 0, modelFile);
+        }
+        JsonArray elementList = model.has("elements") ? model.getAsJsonArray("elements") : null;
+
+        int elements = 0;
+        int faces = 0;
+        if (elementList != null) {
+            for (JsonElement el : elementList) {
+                if (!el.isJsonObject()) continue;
+                elements++;
+                JsonObject obj = el.getAsJsonObject();
+                if (obj.has("faces") && obj.get("faces").isJsonObject()) {
+                    faces += obj.getAsJsonObject("faces").size();
+                }
+            }
+        }
+
+        Set<String> textureIds = new LinkedHashSet<>();
+        for (Map.Entry<String, JsonElement> e : model.getAsJsonObject("textures").entrySet()) {
+            String id = e.getValue().getAsString();
+            // Las referencias "#var" apuntan a otra entrada del mismo mapa
+            if (!id.startsWith("#")) textureIds.add(id);
+        }
+        long pixels = 0;
+        for (String id : textureIds) {
+            pixels += texturePixels(assetsDir, id);
+        }
+
+        // Solo los bloques generan VoxelShape; mismo modelo resuelto y mismo cálculo que CodeGenerator
+        int boxes = "block".equals(tipo) ? ModelShapes.canonicalBoxes(model).size() : 0;
+
+        return new ModelCost(namespace, tipo, name, elements, faces, textureIds.size(), pixels, boxes, modelFile);
+    }
+
+    /**
+     * Lee solo la cabecera IHDR del PNG; no hace falta decodificar la imagen entera.
+     */
+    private static long texturePixels(Path assetsDir, String textureId) {
+        if (assetsDir == null) return 0;
+        Path png = ModelResolver.resolveAsset(assetsDir, textureId, "textures", ".png");
+        if (!Files.isRegularFile(png)) return 0;
+
+        try (InputStream in = Files.newInputStream(png)) {
+            byte[] header = in.readNBytes(24);
+            if (header.length < 24) return 0;
+            for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+                if (header[i] != PNG_SIGNATURE[i]) return 0;
+            }
+            ByteBuffer buf = ByteBuffer.wrap(header);
+            long width = Integer.toUnsignedLong(buf.getInt(16));
+            long height = Integer.toUnsignedLong(buf.getInt(20));
+            return width * height;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
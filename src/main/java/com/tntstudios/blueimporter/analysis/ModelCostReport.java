@@ -0,0 +1,74 @@
+package com.tntstudios.blueimporter.analysis;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.List;
+
+/**
+ * Exporta los perfiles de coste calculados durante el análisis a CSV o JSON.
+ */
+public final class ModelCostReport {
+    private static final Gson GSON = new GsonBuilder()
+            .setPrettyPrinting()
+            .disableHtmlEscaping()
+            .create();
+
+    private ModelCostReport() {
+    }
+
+    public static String toCsv(List<ModelCost> costs, CostBudget budget) {
+        StringBuilder sb = new StringBuilder("namespace,tipo,modelo,elementos,caras,texturas,pixeles_textura,cajas_voxelshape,excede\n");
+        for (ModelCost c : costs) {
+            sb.append(csv(c.namespace())).append(',')
+                    .append(c.tipo()).append(',')
+                    .append(csv(c.name())).append(',')
+                    .append(c.elements()).append(',')
+                    .append(c.faces()).append(',')
+                    .append(c.textures()).append(',')
+                    .append(c.texturePixels()).append(',')
+                    .append(c.shapeBoxes()).append(',')
+                    .append(csv(String.join(", ", budget.violations(c))))
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static String toJson(List<ModelCost> costs, CostBudget budget) {
+        JsonObject root = new JsonObject();
+        JsonObject limits = new JsonObject();
+        limits.addProperty("maxElements", budget.maxElements());
+        limits.addProperty("maxFaces", budget.maxFaces());
+        limits.addProperty("maxTexturePixels", budget.maxTexturePixels());
+        limits.addProperty("maxShapeBoxes", budget.maxShapeBoxes());
+        root.add("budget", limits);
+
+        JsonArray models = new JsonArray();
+        for (ModelCost c : costs) {
+            JsonObject m = new JsonObject();
+            m.addProperty("namespace", c.namespace());
+            m.addProperty("tipo", c.tipo());
+            m.addProperty("name", c.name());
+            m.addProperty("elements", c.elements());
+            m.addProperty("faces", c.faces());
+            m.addProperty("textures", c.textures());
+            m.addProperty("texturePixels", c.texturePixels());
+            m.addProperty("shapeBoxes", c.shapeBoxes());
+            JsonArray over = new JsonArray();
+            budget.violations(c).forEach(over::add);
+            m.add("overBudget", over);
+            models.add(m);
+        }
+        root.add("models", models);
+        return GSON.toJson(root);
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
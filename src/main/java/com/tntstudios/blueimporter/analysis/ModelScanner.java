@@ -0,0 +1,181 @@
+package com.tntstudios.blueimporter.analysis;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Localiza las carpetas {@code src/main/resources/assets/<namespace>/models} de un proyecto
+ * y analiza todos sus modelos en paralelo. Trabaja con java.nio para poder ejecutarse fuera del EDT
+ * sin depender del VFS de IntelliJ.
+ */
+public final class ModelScanner {
+    private static final Logger LOG = Logger.getInstance(ModelScanner.class);
+
+    /**
+     * Carpetas que nunca contienen assets fuente; "build" y "out" duplicarían los modelos
+     * copiados por Gradle/IDEA.
+     */
+    private static final Set<String> SKIPPED_DIRS = Set.of(
+            ".git", ".gradle", ".idea", "build", "out", "run", "node_modules");
+
+    /**
+     * Namespaces que no son de ningún mod propio (overrides de recursos vanilla).
+     */
+    private static final Set<String> FOREIGN_NAMESPACES = Set.of("minecraft");
+
+    private static final String[] TIPOS = {"block", "item"};
+
+    /**
+     * Orden de presentación: agrupado por namespace y, dentro de cada uno, por tipo y nombre.
+     */
+    public static final Comparator<ModelCost> GROUPED_ORDER = Comparator.comparing(ModelCost::namespace)
+            .thenComparing(ModelCost::tipo)
+            .thenComparing(ModelCost::name);
+
+    private ModelScanner() {
+    }
+
+    /**
+     * Todas las carpetas {@code src/main/resources/assets/<namespace>/models} bajo las raíces dadas,
+     * sin duplicados aunque las raíces estén anidadas (p.ej. el módulo raíz de Gradle y sus
+     * submódulos). Se ignoran otros source sets (test, datagen en src/generated) y el namespace
+     * "minecraft". Si {@code cancelled} pasa a true se devuelve lo encontrado hasta entonces.
+     */
+    public static List<Path> findModelRoots(Collection<Path> contentRoots, BooleanSupplier cancelled) {
+        List<Path> roots = contentRoots.stream()
+                .map(root -> root.toAbsolutePath().normalize())
+                .distinct()
+                .toList();
+        // Las raíces contenidas en otra ya se recorren con ella
+        return roots.parallelStream()
+                .filter(root -> roots.stream().noneMatch(other -> !other.equals(root) && root.startsWith(other)))
+                .flatMap(root -> walkModelRoots(root, cancelled).stream())
+                .collect(Collectors.toCollection(TreeSet::new))
+                .stream()
+                .toList();
+    }
+
+    /**
+     * Perfiles de coste de todos los modelos block/item de las carpetas dadas,
+     * ordenados por namespace, tipo y nombre para mostrarlos agrupados.
+     * Las carpetas que no se pueden leer se registran en el log y se omiten.
+     */
+    public static List<ModelCost> analyze(List<Path> modelRoots, BooleanSupplier cancelled) {
+        List<Path> modelFiles = modelRoots.parallelStream()
+                .flatMap(root -> Stream.of(TIPOS).flatMap(tipo -> listJson(root.resolve(tipo)).stream()))
+                .toList();
+
+        return modelFiles.parallelStream()
+                .filter(file -> !cancelled.getAsBoolean())
+                .map(ModelScanner::analyzeFile)
+                .sorted(GROUPED_ORDER)
+                .toList();
+    }
+
+    /**
+     * Raíz del módulo al que pertenece una carpeta de modelos
+     * ({@code <modulo>/src/main/resources/assets/<ns>/models}), o null si la carpeta
+     * no sigue esa estructura y por tanto no se sabe dónde generar el código.
+     */
+    public static Path moduleBaseDir(Path modelsRoot) {
+        Path resources = modelsRoot.getParent() != null ? modelsRoot.getParent().getParent() : null;
+        resources = resources != null ? resources.getParent() : null;
+        if (resources == null
+                || !isNamed(resources, "resources")
+                || !isNamed(resources.getParent(), "main")
+                || !isNamed(resources.getParent().getParent(), "src")) {
+            return null;
+        }
+        return resources.getParent().getParent().getParent();
+    }
+
+    private static ModelCost analyzeFile(Path file) {
+        // <assets>/<ns>/models/<tipo>/<nombre>.json
+        Path tipoDir = file.getParent();
+        Path modelsRoot = tipoDir.getParent();
+        Path namespaceDir = modelsRoot.getParent();
+        String fileName = file.getFileName().toString();
+        String name = fileName.substring(0, fileName.length() - ".json".length());
+        return ModelCost.analyze(
+                namespaceDir.getFileName().toString(),
+                tipoDir.getFileName().toString(),
+                name,
+                file,
+                namespaceDir.getParent());
+    }
+
+    private static List<Path> walkModelRoots(Path root, BooleanSupplier cancelled) {
+        List<Path> found = new ArrayList<>();
+        if (!Files.isDirectory(root)) return found;
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (cancelled.getAsBoolean()) return FileVisitResult.TERMINATE;
+                    if (!dir.equals(root) && SKIPPED_DIRS.contains(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    Path namespaceDir = dir.getParent();
+                    if (isNamed(dir, "models") && namespaceDir != null && isNamed(namespaceDir.getParent(), "assets")) {
+                        if (moduleBaseDir(dir) != null
+                                && !FOREIGN_NAMESPACES.contains(namespaceDir.getFileName().toString())) {
+                            found.add(dir);
+                        }
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    // Carpetas sin permisos o enlaces rotos no deben abortar el análisis
+                    LOG.warn("No se pudo leer " + file + ": " + exc.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                    if (exc != null) {
+                        LOG.warn("Error recorriendo " + dir + ": " + exc.getMessage());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("Error recorriendo " + root + ": " + e.getMessage());
+        }
+        return found;
+    }
+
+    private static List<Path> listJson(Path dir) {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".json"))
+                    .toList();
+        } catch (IOException e) {
+            LOG.warn("No se pudo listar " + dir + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static boolean isNamed(Path path, String name) {
+        return path != null && path.getFileName() != null && path.getFileName().toString().equals(name);
+    }
+}
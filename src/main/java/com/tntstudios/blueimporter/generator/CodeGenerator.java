@@ -4,16 +4,19 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import org.apache.commons.io.FilenameUtils;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class CodeGenerator {
@@ -22,11 +25,15 @@ public class CodeGenerator {
             .setPrettyPrinting()
             .disableHtmlEscaping()
             .create();
+    private static final String SHAPE_KEY_PREFIX = "    // shape: ";
+    private static final String SHAPES_END_MARKER = "    // @@shapes-end";
+    private static final Pattern SHAPE_DECL = Pattern.compile("\\bSHAPE_(\\d+)\\s*=");
 
     /**
      * Punto único de entrada para generar TODO lo necesario de un modelo.
+     * {@code basePath} es la raíz del módulo (la carpeta que contiene "src").
      */
-    public static void generate(Project project,
+    public static void generate(String basePath,
                                 String modId,
                                 String tipo,
                                 String modelName,
@@ -36,32 +43,32 @@ public class CodeGenerator {
                                 String version) {
         LOG.info("=== Generando modelo: " + modelName + " (" + tipo + ") ===");
 
-        createLangEntry(project, modId, tipo, modelName, displayName);
+        createLangEntry(basePath, modId, tipo, modelName, displayName);
 
         if ("block".equals(tipo)) {
-            createLootTable(project, modId, modelName);
-            createBlockstate(project, modId, modelName);
-            createBlockClass(project, modId, modelName);
-            updateBlocksRegistry(project, modId, modelName);
+            createLootTable(basePath, modId, modelName);
+            createBlockstate(basePath, modId, modelName);
+            createBlockClass(basePath, modId, modelName);
+            updateBlocksRegistry(basePath, modId, modelName);
         } else if ("item".equals(tipo)) {
-            createItemModel(project, modId, modelName);
-            updateItemsRegistry(project, modId, modelName);
+            createItemModel(basePath, modId, modelName);
+            updateItemsRegistry(basePath, modId, modelName);
         }
 
-        ensureVoxelShapeUtil(project, modId);
-        updateTabsRegistry(project, modId, modelName);
-        createClientInitializer(project, modId);
+        ensureVoxelShapeUtil(basePath, modId);
+        updateTabsRegistry(basePath, modId, modelName);
+        createClientInitializer(basePath, modId);
 
         LOG.info("Modelo " + modelName + " generado correctamente.");
     }
 
-    private static void createLangEntry(Project project,
+    private static void createLangEntry(String basePath,
                                         String modId,
                                         String tipo,
                                         String modelName,
                                         String displayName) {
         LOG.info("  • Actualizando lang: " + modelName);
-        Path langDir = Paths.get(project.getBasePath(),
+        Path langDir = Paths.get(basePath,
                 "src/main/resources/assets",
                 modId, "lang");
         try {
@@ -87,12 +94,12 @@ public class CodeGenerator {
         }
     }
 
-    private static void createLootTable(Project project,
+    private static void createLootTable(String basePath,
                                         String modId,
                                         String modelName) {
         LOG.info("  • Creando loot table: " + modelName);
         try {
-            Path dir = Paths.get(project.getBasePath(),
+            Path dir = Paths.get(basePath,
                     "src/main/resources/data",
                     modId, "loot_tables/blocks");
             Files.createDirectories(dir);
@@ -121,12 +128,12 @@ public class CodeGenerator {
         }
     }
 
-    private static void createBlockstate(Project project,
+    private static void createBlockstate(String basePath,
                                          String modId,
                                          String modelName) {
         LOG.info("  • Creando blockstate: " + modelName);
         try {
-            Path dir = Paths.get(project.getBasePath(),
+            Path dir = Paths.get(basePath,
                     "src/main/resources/assets",
                     modId, "blockstates");
             Files.createDirectories(dir);
@@ -157,12 +164,12 @@ public class CodeGenerator {
         }
     }
 
-    private static void createBlockClass(Project project,
+    private static void createBlockClass(String basePath,
                                          String modId,
                                          String modelName) {
         LOG.info("  • Generando clase Java: " + modelName + "Block");
         String className = capitalize(modelName) + "Block";
-        Path srcDir = Paths.get(project.getBasePath(),
+        Path srcDir = Paths.get(basePath,
                 "src/main/java",
                 "com", "tntstudios", modId, "blocks");
         try {
@@ -174,35 +181,26 @@ public class CodeGenerator {
                 return;
             }
 
+            String shapeConst = internBlockShape(basePath, modId, modelName);
+
             String template =
                     "package com.TNTStudios." + modId + ".blocks;\n" +
                             "\n" +
-                            "import com.TNTStudios." + modId + ".util.VoxelShapeUtil;\n" +
+                            "import com.TNTStudios." + modId + ".util.BlockShapes;\n" +
                             "import net.minecraft.block.BlockState;\n" +
                             "import net.minecraft.block.ShapeContext;\n" +
                             "import net.minecraft.state.property.Properties;\n" +
                             "import net.minecraft.util.math.BlockPos;\n" +
                             "import net.minecraft.util.math.Direction;\n" +
                             "import net.minecraft.util.shape.VoxelShape;\n" +
-                            "import net.minecraft.util.shape.VoxelShapes;\n" +
                             "import net.minecraft.world.BlockView;\n" +
                             "\n" +
-                            "import java.util.EnumMap;\n" +
+                            "import java.util.Map;\n" +
                             "\n" +
                             "public class " + className + " extends FacingXBlock {\n" +
                             "\n" +
-                            "    private static final VoxelShape BASE_SHAPE = VoxelShapes.union(\n" +
-                            "        // TODO: añade aquí tus cuboides\n" +
-                            "    );\n" +
-                            "\n" +
-                            "    private static final EnumMap<Direction, VoxelShape> SHAPES = new EnumMap<>(Direction.class);\n" +
-                            "\n" +
-                            "    static {\n" +
-                            "        SHAPес.put( Direction.NORTH, BASE_SHAPE);\n" +
-                            "        SHAPес.put( Direction.SOUTH, VoxelShapeUtil.rotateY(BASE_SHAPE, 180));\n" +
-                            "        SHAPيس.put(Direction.WEST, VoxelShapeUtil.rotateY(BASE_SHAPE, 90));\n" +
-                            "        SHAPύ.put(Direction.EAST, VoxelShapeUtil.rotateY(BASE_SHAPE, 270));\n" +
-                            "    }\n" +
+                            "    // Forma compartida con los bloques de geometría idéntica (ver BlockShapes)\n" +
+                            "    private static final Map<Direction, VoxelShape> SHAPES = BlockShapes." + shapeConst + ";\n" +
                             "\n" +
                             "    public " + className + "(Settings settings) {\n" +
                             "        super(settings);\n" +
@@ -210,12 +208,12 @@ public class CodeGenerator {
                             "\n" +
                             "    @Override\n" +
                             "    public VoxelShape getOutlineShape(BlockState state, BlockView world, BlockPos pos, ShapeContext context) {\n" +
-                            "        return SHAPناس.getOrDefault(state.get(Properties.HORIZONTAL_FACING), BASE_SHAPE);\n" +
+                            "        return SHAPES.get(state.get(Properties.HORIZONTAL_FACING));\n" +
                             "    }\n" +
                             "\n" +
                             "    @Override\n" +
                             "    public VoxelShape getCollisionShape(BlockState state, BlockView world, BlockPos pos, ShapeContext context) {\n" +
-                            "        return SHAP而.getOrDefault(state.get(Properties.HORIZONTAL_FACING), BASE_SHAPE);\n" +
+                            "        return SHAPES.get(state.get(Properties.HORIZONTAL_FACING));\n" +
                             "    }\n" +
                             "}\n";
 
@@ -230,12 +228,122 @@ public class CodeGenerator {
         }
     }
 
-    private static void createItemModel(Project project,
+    /**
+     * Devuelve la constante de BlockShapes con la geometría del modelo, añadiéndola
+     * solo si ningún bloque anterior tiene ya exactamente la misma forma.
+     */
+    private static String internBlockShape(String basePath,
+                                           String modId,
+                                           String modelName) throws IOException {
+        Path assetsDir = Paths.get(basePath, "src/main/resources/assets");
+        Path modelFile = assetsDir.resolve(modId).resolve("models/block").resolve(modelName + ".json");
+        // Los cuboides suelen vivir en un "parent" compartido (p.ej. ns:block/chair_base)
+        JsonObject model = ModelResolver.resolve(modelFile, assetsDir);
+        if (model == null) {
+            LOG.warn("    – No se pudo leer " + modelFile + ", se usa un bloque completo.");
+        } else if (ModelShapes.exceedsBlock(model)) {
+            LOG.warn("    – " + modelName + " tiene cuboides fuera de 0..16; su VoxelShape se recorta al bloque.");
+        }
+        List<double[]> boxes = ModelShapes.canonicalBoxes(model);
+        String key = ModelShapes.key(boxes);
+
+        Path holder = Paths.get(basePath,
+                "src/main/java",
+                "com", "tntstudios", modId, "util",
+                "BlockShapes.java");
+        if (!Files.exists(holder)) {
+            String content =
+                    "package com.TNTStudios." + modId + ".util;\n\n" +
+                            "import net.minecraft.block.Block;\n" +
+                            "import net.minecraft.util.math.Direction;\n" +
+                            "import net.minecraft.util.shape.VoxelShape;\n" +
+                            "import net.minecraft.util.shape.VoxelShapes;\n\n" +
+                            "import java.util.Collections;\n" +
+                            "import java.util.EnumMap;\n" +
+                            "import java.util.Map;\n\n" +
+                            "/**\n" +
+                            " * Clase generada: una constante por cada geometría distinta.\n" +
+                            " * Los bloques con la misma forma comparten la misma instancia.\n" +
+                            " */\n" +
+                            "public final class BlockShapes {\n\n" +
+                            SHAPES_END_MARKER + "\n\n" +
+                            "    private BlockShapes() {\n" +
+                            "    }\n\n" +
+                            "    // El blockstate pinta el modelo sin rotar en facing=south y gira y=90/180/270\n" +
+                            "    // para west/north/east; rotateY gira en sentido contrario, de ahí 270/180/90.\n" +
+                            "    private static Map<Direction, VoxelShape> rotations(VoxelShape base) {\n" +
+                            "        EnumMap<Direction, VoxelShape> shapes = new EnumMap<>(Direction.class);\n" +
+                            "        shapes.put(Direction.SOUTH, base);\n" +
+                            "        shapes.put(Direction.WEST, VoxelShapeUtil.rotateY(base, 270));\n" +
+                            "        shapes.put(Direction.NORTH, VoxelShapeUtil.rotateY(base, 180));\n" +
+                            "        shapes.put(Direction.EAST, VoxelShapeUtil.rotateY(base, 90));\n" +
+                            "        // Compartido entre bloques: nadie debe poder modificarlo\n" +
+                            "        return Collections.unmodifiableMap(shapes);\n" +
+                            "    }\n" +
+                            "}\n";
+            Files.createDirectories(holder.getParent());
+            Files.writeString(holder, content, StandardCharsets.UTF_8);
+        }
+
+        List<String> lines = Files.readAllLines(holder, StandardCharsets.UTF_8);
+        String keyLine = SHAPE_KEY_PREFIX + key;
+        // max+1 y no un recuento: BlockShapes es código versionado y puede editarse a mano
+        int nextIndex = 0;
+        int endIdx = -1;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.equals(keyLine) && i + 1 < lines.size()) {
+                String decl = lines.get(i + 1);
+                int nameStart = decl.indexOf("SHAPE_");
+                int nameEnd = nameStart < 0 ? -1 : decl.indexOf(' ', nameStart);
+                if (nameEnd < 0) {
+                    throw new IOException("Declaración de forma inesperada tras '" + line.trim() + "' en " + holder);
+                }
+                String constName = decl.substring(nameStart, nameEnd);
+                LOG.info("    – Reutilizando forma " + constName + " para " + modelName);
+                return constName;
+            }
+            Matcher decl = SHAPE_DECL.matcher(line);
+            if (decl.find()) nextIndex = Math.max(nextIndex, Integer.parseInt(decl.group(1)) + 1);
+            if (line.equals(SHAPES_END_MARKER)) endIdx = i;
+        }
+        if (endIdx < 0) {
+            throw new IOException("No se encontró el marcador de formas en " + holder);
+        }
+
+        String constName = "SHAPE_" + nextIndex;
+        List<String> block = new ArrayList<>();
+        block.add(keyLine);
+        block.add("    public static final Map<Direction, VoxelShape> " + constName + " = rotations(");
+        if (boxes.size() == 1) {
+            block.add("            " + cuboid(boxes.get(0)));
+        } else {
+            block.add("            VoxelShapes.union(");
+            for (int i = 0; i < boxes.size(); i++) {
+                block.add("                    " + cuboid(boxes.get(i)) + (i < boxes.size() - 1 ? "," : ""));
+            }
+            block.add("            )");
+        }
+        block.add("    );");
+        block.add("");
+        lines.addAll(endIdx, block);
+        Files.write(holder, lines, StandardCharsets.UTF_8);
+        LOG.info("    – Nueva forma " + constName + " (cajas: " + boxes.size() + ") para " + modelName);
+        return constName;
+    }
+
+    private static String cuboid(double[] box) {
+        return Arrays.stream(box)
+                .mapToObj(ModelShapes::format)
+                .collect(Collectors.joining(", ", "Block.createCuboidShape(", ")"));
+    }
+
+    private static void createItemModel(String basePath,
                                         String modId,
                                         String modelName) {
         LOG.info("  • Creando modelo de item: " + modelName);
         try {
-            Path dir = Paths.get(project.getBasePath(),
+            Path dir = Paths.get(basePath,
                     "src/main/resources/assets",
                     modId, "models/item");
             Files.createDirectories(dir);
@@ -249,11 +357,11 @@ public class CodeGenerator {
         }
     }
 
-    private static void updateItemsRegistry(Project project,
+    private static void updateItemsRegistry(String basePath,
                                             String modId,
                                             String modelName) {
         LOG.info("  • Actualizando ItemsRegistry: " + modelName);
-        Path registryFile = Paths.get(project.getBasePath(),
+        Path registryFile = Paths.get(basePath,
                 "src/main/java",
                 "com", "tntstudios", modId, "registry",
                 "ItemsRegistry.java");
@@ -300,10 +408,10 @@ public class CodeGenerator {
         }
     }
 
-    private static void ensureVoxelShapeUtil(Project project,
+    private static void ensureVoxelShapeUtil(String basePath,
                                              String modId) {
         LOG.info("  • Asegurando VoxelShapeUtil");
-        Path file = Paths.get(project.getBasePath(),
+        Path file = Paths.get(basePath,
                 "src/main/java",
                 "com", "tntstudios", modId, "util",
                 "VoxelShapeUtil.java");
@@ -339,9 +447,9 @@ public class CodeGenerator {
         }
     }
 
-    private static void updateTabsRegistry(Project project, String modId, String modelName) {
+    private static void updateTabsRegistry(String basePath, String modId, String modelName) {
         LOG.info("  • Actualizando pestaña creativa");
-        Path file = Paths.get(project.getBasePath(),
+        Path file = Paths.get(basePath,
                 "src/main/java",
                 "com", "tntstudios", modId, "registry",
                 capitalize(modId) + "Tabs.java");
@@ -383,9 +491,9 @@ public class CodeGenerator {
         }
     }
 
-    private static void createClientInitializer(Project project, String modId) {
+    private static void createClientInitializer(String basePath, String modId) {
         LOG.info("  • Creando inicializador cliente");
-        Path clientDir = Paths.get(project.getBasePath(),
+        Path clientDir = Paths.get(basePath,
                 "src", "client", "java",
                 "com", "TNTStudios", modId, "client");
         try {
@@ -438,9 +546,9 @@ public class CodeGenerator {
         return Character.toUpperCase(s.charAt(0)) + s.substring(1);
     }
 
-    private static void updateBlocksRegistry(Project project, String modId, String modelName) {
+    private static void updateBlocksRegistry(String basePath, String modId, String modelName) {
         Path registryFile = Paths.get(
-                project.getBasePath(),
+                basePath,
                 "src/main/java",
                 "com", "tntstudios", modId, "registry",
                 "BlocksRegistry.java"
@@ -0,0 +1,85 @@
+package com.tntstudios.blueimporter.generator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Resuelve la cadena de "parent" de un modelo como hace el juego: los elementos salen del
+ * primer modelo de la cadena que los declare y las texturas se combinan con prioridad del hijo.
+ * Lo usan tanto la generación de VoxelShapes como el análisis de costes para que no diverjan.
+ */
+public final class ModelResolver {
+
+    /**
+     * Límite de la cadena de "parent"; evita bucles en modelos mal escritos.
+     */
+    private static final int MAX_PARENT_DEPTH = 8;
+
+    private ModelResolver() {
+    }
+
+    /**
+     * Modelo "aplanado" con solo {@code elements} (si alguno de la cadena los declara) y
+     * {@code textures} combinadas. Los padres se buscan en {@code assetsDir}; los que no están
+     * en disco (p.ej. vanilla) cortan la cadena. Devuelve null si el propio fichero no se puede leer.
+     */
+    public static JsonObject resolve(Path modelFile, Path assetsDir) {
+        JsonObject model = read(modelFile);
+        if (model == null) return null;
+
+        JsonObject resolved = new JsonObject();
+        JsonObject textures = new JsonObject();
+        Set<Path> visited = new HashSet<>();
+        visited.add(modelFile.toAbsolutePath().normalize());
+        for (int depth = 0; model != null && depth <= MAX_PARENT_DEPTH; depth++) {
+            if (!resolved.has("elements") && model.has("elements") && model.get("elements").isJsonArray()) {
+                resolved.add("elements", model.getAsJsonArray("elements"));
+            }
+            if (model.has("textures") && model.get("textures").isJsonObject()) {
+                for (var e : model.getAsJsonObject("textures").entrySet()) {
+                    if (e.getValue().isJsonPrimitive() && !textures.has(e.getKey())) {
+                        textures.add(e.getKey(), e.getValue());
+                    }
+                }
+            }
+            model = loadParent(model, assetsDir, visited);
+        }
+        resolved.add("textures", textures);
+        return resolved;
+    }
+
+    /**
+     * {@code ns:ruta} → {@code <assets>/ns/<carpeta>/ruta<ext>}; sin namespace es "minecraft".
+     */
+    public static Path resolveAsset(Path assetsDir, String id, String folder, String extension) {
+        int colon = id.indexOf(':');
+        String namespace = colon < 0 ? "minecraft" : id.substring(0, colon);
+        String path = colon < 0 ? id : id.substring(colon + 1);
+        return assetsDir.resolve(namespace).resolve(folder).resolve(path + extension);
+    }
+
+    private static JsonObject loadParent(JsonObject model, Path assetsDir, Set<Path> visited) {
+        if (assetsDir == null || !model.has("parent") || !model.get("parent").isJsonPrimitive()) return null;
+        Path file = resolveAsset(assetsDir, model.get("parent").getAsString(), "models", ".json");
+        if (!visited.add(file.toAbsolutePath().normalize())) return null;
+        return read(file);
+    }
+
+    private static JsonObject read(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            JsonElement root = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8));
+            return root.isJsonObject() ? root.getAsJsonObject() : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
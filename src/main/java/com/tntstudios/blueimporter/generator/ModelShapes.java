@@ -0,0 +1,133 @@
+package com.tntstudios.blueimporter.generator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Convierte los "elements" de un modelo Blockbench en una lista canónica de cuboides
+ * (en píxeles, 0..16) para poder comparar e internar formas idénticas.
+ */
+public final class ModelShapes {
+
+    private static final double[] FULL_CUBE = {0, 0, 0, 16, 16, 16};
+
+    private ModelShapes() {
+    }
+
+    /**
+     * Cuboides normalizados, sin duplicados ni cajas contenidas en otras, y ordenados.
+     * Si el modelo no define elementos se usa el bloque completo.
+     */
+    public static List<double[]> canonicalBoxes(JsonObject model) {
+        List<double[]> boxes = new ArrayList<>();
+        if (model != null && model.has("elements") && model.get("elements").isJsonArray()) {
+            for (JsonElement el : model.getAsJsonArray("elements")) {
+                if (!el.isJsonObject()) continue;
+                JsonObject obj = el.getAsJsonObject();
+                double[] from = readVec(obj.get("from"));
+                double[] to = readVec(obj.get("to"));
+                if (from == null || to == null) continue;
+
+                double[] box = new double[6];
+                for (int axis = 0; axis < 3; axis++) {
+                    box[axis] = clamp(Math.min(from[axis], to[axis]));
+                    box[axis + 3] = clamp(Math.max(from[axis], to[axis]));
+                }
+                // Las cajas sin volumen (planos) no aportan nada a la colisión
+                if (box[0] < box[3] && box[1] < box[4] && box[2] < box[5]) {
+                    boxes.add(box);
+                }
+            }
+        }
+        if (boxes.isEmpty()) {
+            boxes.add(FULL_CUBE.clone());
+        }
+
+        boxes.sort(Comparator.comparingDouble((double[] b) -> b[0])
+                .thenComparingDouble(b -> b[1])
+                .thenComparingDouble(b -> b[2])
+                .thenComparingDouble(b -> b[3])
+                .thenComparingDouble(b -> b[4])
+                .thenComparingDouble(b -> b[5]));
+
+        List<double[]> result = new ArrayList<>();
+        for (int i = 0; i < boxes.size(); i++) {
+            double[] box = boxes.get(i);
+            boolean redundant = false;
+            for (int j = 0; j < boxes.size() && !redundant; j++) {
+                if (i == j) continue;
+                double[] other = boxes.get(j);
+                // Si son idénticas solo se conserva la primera
+                redundant = contains(other, box) && (!Arrays.equals(other, box) || j < i);
+            }
+            if (!redundant) result.add(box);
+        }
+        return result;
+    }
+
+    /**
+     * true si algún cuboide se sale del bloque (Blockbench permite -16..32) y por tanto
+     * {@link #canonicalBoxes} lo recortará a 0..16.
+     */
+    public static boolean exceedsBlock(JsonObject model) {
+        if (model == null || !model.has("elements") || !model.get("elements").isJsonArray()) return false;
+        for (JsonElement el : model.getAsJsonArray("elements")) {
+            if (!el.isJsonObject()) continue;
+            for (String corner : new String[]{"from", "to"}) {
+                double[] v = readVec(el.getAsJsonObject().get(corner));
+                if (v == null) continue;
+                for (double c : v) {
+                    double rounded = round(c);
+                    if (rounded < 0 || rounded > 16) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clave textual de una lista canónica; dos modelos con la misma clave comparten forma.
+     */
+    public static String key(List<double[]> boxes) {
+        return boxes.stream()
+                .map(b -> Arrays.stream(b).mapToObj(ModelShapes::format).collect(Collectors.joining(",")))
+                .collect(Collectors.joining(";"));
+    }
+
+    public static String format(double v) {
+        if (v == Math.rint(v)) return Long.toString((long) v);
+        return Double.toString(v);
+    }
+
+    private static boolean contains(double[] outer, double[] inner) {
+        return outer[0] <= inner[0] && outer[1] <= inner[1] && outer[2] <= inner[2]
+                && outer[3] >= inner[3] && outer[4] >= inner[4] && outer[5] >= inner[5];
+    }
+
+    private static double[] readVec(JsonElement el) {
+        if (el == null || !el.isJsonArray()) return null;
+        JsonArray arr = el.getAsJsonArray();
+        if (arr.size() != 3) return null;
+        try {
+            return new double[]{arr.get(0).getAsDouble(), arr.get(1).getAsDouble(), arr.get(2).getAsDouble()};
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static double clamp(double v) {
+        return Math.max(0, Math.min(16, round(v)));
+    }
+
+    private static double round(double v) {
+        // Redondeo a 1/1000 de píxel para que el ruido de Blockbench no rompa el interning
+        return Math.round(v * 1000.0) / 1000.0;
+    }
+}
@@ -1,143 +1,265 @@
 package com.tntstudios.blueimporter.ui;
 
+import com.tntstudios.blueimporter.analysis.CostBudget;
+import com.tntstudios.blueimporter.analysis.ModelCost;
+import com.tntstudios.blueimporter.analysis.ModelCostReport;
+import com.tntstudios.blueimporter.analysis.ModelScanner;
 import com.tntstudios.blueimporter.generator.CodeGenerator;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.roots.ModuleRootManager;
 import com.intellij.openapi.ui.DialogWrapper;
 import com.intellij.openapi.ui.Messages;
-import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.util.ThrowableComputable;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
 
 public class ImporterDialog extends DialogWrapper {
+    private final Project project;
+
     private JPanel content;
 
     private JTextField modIdField;
+    private JCheckBox workspaceCheck;
     private JComboBox<String> platformCombo;
     private JCheckBox geckoCheck;
     private JComboBox<String> versionCombo;
     private JButton analyzeBtn;
     private JButton generateBtn;
+    private JButton exportBtn;
+
+    private JSpinner maxElementsSpinner;
+    private JSpinner maxFacesSpinner;
+    private JSpinner maxPixelsSpinner;
+    private JSpinner maxBoxesSpinner;
 
-    private DefaultListModel<String> listModel;
-    private JList<String> modelList;
+    private ModelCostTableModel costModel;
+    private JTable modelTable;
 
-    public ImporterDialog() {
-        super(true);
+    public ImporterDialog(Project project) {
+        super(project, true);
+        this.project = project;
         init();
         setTitle("Blue Item/Block Importer");
 
         analyzeBtn.addActionListener(e -> doAnalyze());
         generateBtn.addActionListener(e -> doGenerate());
+        exportBtn.addActionListener(e -> doExport());
+        for (JSpinner spinner : new JSpinner[]{maxElementsSpinner, maxFacesSpinner, maxPixelsSpinner, maxBoxesSpinner}) {
+            spinner.addChangeListener(e -> costModel.setBudget(readBudget()));
+        }
     }
 
     private void doAnalyze() {
+        boolean workspace = workspaceCheck.isSelected();
         String modId = modIdField.getText().trim();
-        if (modId.isEmpty()) {
-            Messages.showErrorDialog("Debes indicar el Mod ID (p.ej. viceburger).", "Error");
-            return;
-        }
-        Project project = ProjectManager.getInstance().getOpenProjects()[0];
-        String basePath = project.getBasePath() + "/src/main/resources/assets/" + modId + "/models";
-        VirtualFile modelsRoot = LocalFileSystem.getInstance().findFileByPath(basePath);
-        if (modelsRoot == null) {
-            Messages.showErrorDialog("No encontré carpetas de modelos en:\n" + basePath, "Error al Analizar");
+        if (!workspace && modId.isEmpty()) {
+            Messages.showErrorDialog("Debes indicar el Mod ID (p.ej. viceburger) o marcar 'Todo el proyecto'.", "Error");
             return;
         }
 
-        // Limpiar lista
-        listModel.clear();
-
-        // Detectar modelos en block
-        VirtualFile blockFolder = modelsRoot.findChild("block");
-        List<String> blockNames = new ArrayList<>();
-        if (blockFolder != null) {
-            for (VirtualFile file : blockFolder.getChildren()) {
-                if ("json".equalsIgnoreCase(file.getExtension())) {
-                    blockNames.add(file.getNameWithoutExtension());
-                }
+        List<Path> contentRoots;
+        if (workspace) {
+            contentRoots = contentRoots();
+        } else {
+            String basePath = project.getBasePath();
+            if (basePath == null) {
+                Messages.showErrorDialog("El proyecto no tiene carpeta base; marca 'Todo el proyecto'.", "Error al Analizar");
+                return;
+            }
+            Path modelsRoot = Path.of(basePath, "src/main/resources/assets", modId, "models");
+            if (!Files.isDirectory(modelsRoot)) {
+                Messages.showErrorDialog("No encontré carpetas de modelos en:\n" + modelsRoot, "Error al Analizar");
+                return;
             }
+            contentRoots = List.of(modelsRoot);
         }
 
-        // Detectar modelos en item
-        VirtualFile itemFolder = modelsRoot.findChild("item");
-        List<String> itemNames = new ArrayList<>();
-        if (itemFolder != null) {
-            for (VirtualFile file : itemFolder.getChildren()) {
-                if ("json".equalsIgnoreCase(file.getExtension())) {
-                    itemNames.add(file.getNameWithoutExtension());
-                }
-            }
+        // Limpiar tabla
+        costModel.clear();
+
+        // Búsqueda y análisis en paralelo fuera del EDT; solo se usa java.nio, sin VFS
+        List<ModelCost> costs;
+        try {
+            costs = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                    (ThrowableComputable<List<ModelCost>, RuntimeException>) () -> {
+                        // Los hilos del stream paralelo no ven el indicador; se les pasa la consulta
+                        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+                        BooleanSupplier cancelled = () -> indicator != null && indicator.isCanceled();
+                        List<Path> modelRoots = workspace
+                                ? ModelScanner.findModelRoots(contentRoots, cancelled)
+                                : contentRoots;
+                        List<ModelCost> result = ModelScanner.analyze(modelRoots, cancelled);
+                        return cancelled.getAsBoolean() ? null : result;
+                    },
+                    "Analizando modelos",
+                    true,
+                    project
+            );
+        } catch (RuntimeException ex) {
+            Messages.showErrorDialog("Error analizando modelos: " + ex.getMessage(), "Error al Analizar");
+            return;
         }
+        if (costs == null) return; // usuario canceló
 
         // Si no hay modelos ni en block ni en item
-        if (blockNames.isEmpty() && itemNames.isEmpty()) {
-            Messages.showInfoMessage("No se encontraron modelos JSON en 'block' ni 'item'.", "Sin resultados");
+        if (costs.isEmpty()) {
+            Messages.showInfoMessage(workspace
+                    ? "No se encontraron modelos JSON en ninguna carpeta src/main/resources/assets/*/models del proyecto."
+                    : "No se encontraron modelos JSON en 'block' ni 'item'.", "Sin resultados");
             return;
         }
 
+        // Carpetas de modelos que tienen bloques pero ningún item
+        Set<Path> withItems = costs.stream()
+                .filter(c -> "item".equals(c.tipo()))
+                .map(ImporterDialog::modelsRootOf)
+                .collect(Collectors.toSet());
+        List<ModelCost> blocksWithoutItem = costs.stream()
+                .filter(c -> "block".equals(c.tipo()) && !withItems.contains(modelsRootOf(c)))
+                .toList();
+
+        List<ModelCost> rows = new ArrayList<>(costs);
         // Si existen solo block y no item, preguntar para generar item a partir de block
-        if (!blockNames.isEmpty() && itemNames.isEmpty()) {
+        if (!blocksWithoutItem.isEmpty()) {
+            Set<String> namespaces = blocksWithoutItem.stream()
+                    .map(ModelCost::namespace)
+                    .collect(Collectors.toCollection(TreeSet::new));
             int choice = Messages.showYesNoDialog(
-                    "No encontré modelos en carpeta 'item'. ¿Generar modelos de item a partir de los bloques?",
+                    "No encontré modelos en carpeta 'item' de: " + String.join(", ", namespaces)
+                            + ". ¿Generar modelos de item a partir de los bloques?",
                     "Generar modelos de item",
                     Messages.getYesButton(),
                     Messages.getNoButton(),
                     null
             );
             if (choice == Messages.YES) {
-                for (String name : blockNames) {
-                    listModel.addElement("item/" + name);
-                }
+                // El item aún no tiene modelo propio: su coste es el del bloque
+                blocksWithoutItem.forEach(c -> rows.add(c.asItem()));
+                rows.sort(ModelScanner.GROUPED_ORDER);
             }
         }
+        costModel.setRows(rows);
+    }
 
-        // Agregar entradas de block
-        for (String name : blockNames) {
-            listModel.addElement("block/" + name);
+    /**
+     * Raíces de contenido de todos los módulos del proyecto (en un monorepo, cada mod
+     * suele ser un módulo distinto).
+     */
+    private List<Path> contentRoots() {
+        List<Path> roots = new ArrayList<>();
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            for (VirtualFile root : ModuleRootManager.getInstance(module).getContentRoots()) {
+                if (root.isInLocalFileSystem()) {
+                    roots.add(root.toNioPath());
+                }
+            }
         }
-        // Agregar entradas de item
-        for (String name : itemNames) {
-            listModel.addElement("item/" + name);
+        if (roots.isEmpty() && project.getBasePath() != null) {
+            roots.add(Path.of(project.getBasePath()));
         }
+        return roots;
     }
 
-    private void doGenerate() {
-        String modId = modIdField.getText().trim();
-        if (modId.isEmpty()) {
-            Messages.showErrorDialog("Debes indicar el Mod ID antes de generar.", "Error");
+    private static Path modelsRootOf(ModelCost cost) {
+        // <ns>/models/<tipo>/<nombre>.json
+        return cost.source().getParent().getParent();
+    }
+
+    private void doExport() {
+        List<ModelCost> costs = costModel.getRows();
+        if (costs.isEmpty()) {
+            Messages.showInfoMessage("No hay informe que exportar. Primero analiza modelos.", "Atención");
             return;
         }
-        Project project = ProjectManager.getInstance().getOpenProjects()[0];
-        List<String> modelos = Collections.list(listModel.elements());
+        FileSaverDescriptor descriptor = new FileSaverDescriptor(
+                "Exportar informe de coste", "Guarda el informe como CSV o JSON", "csv", "json");
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save((VirtualFile) null, "model-cost-report.csv");
+        if (target == null) return; // usuario canceló
+
+        Path file = target.getFile().toPath();
+        CostBudget budget = costModel.getBudget();
+        String report = file.getFileName().toString().toLowerCase().endsWith(".json")
+                ? ModelCostReport.toJson(costs, budget)
+                : ModelCostReport.toCsv(costs, budget);
+        try {
+            Files.writeString(file, report, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            Messages.showErrorDialog("Error exportando informe: " + ex.getMessage(), "Error");
+        }
+    }
+
+    private CostBudget readBudget() {
+        return new CostBudget(
+                ((Number) maxElementsSpinner.getValue()).intValue(),
+                ((Number) maxFacesSpinner.getValue()).intValue(),
+                ((Number) maxPixelsSpinner.getValue()).longValue(),
+                ((Number) maxBoxesSpinner.getValue()).intValue()
+        );
+    }
+
+    private void doGenerate() {
+        List<ModelCost> modelos = costModel.getRows();
         if (modelos.isEmpty()) {
             Messages.showInfoMessage("No hay modelos para procesar. Primero analiza modelos.", "Atención");
             return;
         }
 
+        // Sin src/main/resources no se sabe qué módulo es dueño de los assets: mejor no escribir nada
+        List<ModelCost> skipped = modelos.stream()
+                .filter(c -> ModelScanner.moduleBaseDir(modelsRootOf(c)) == null)
+                .toList();
+        if (!skipped.isEmpty()) {
+            Messages.showWarningDialog(
+                    "Se omiten los modelos que no están en src/main/resources/assets/<modid>/models:\n"
+                            + skipped.stream().map(c -> c.namespace() + ":" + c.entry()).collect(Collectors.joining("\n")),
+                    "Modelos omitidos");
+            if (skipped.size() == modelos.size()) return;
+        }
+
         boolean useGecko = geckoCheck.isSelected();
         String version = (String) versionCombo.getSelectedItem();
 
-        for (String entry : modelos) {
-            String[] parts = entry.split("/");
-            String tipo = parts[0];
-            String modelName = parts[1];
+        for (ModelCost entry : modelos) {
+            String modId = entry.namespace();
+            String tipo = entry.tipo();
+            String modelName = entry.name();
+            // Cada namespace se genera en el módulo donde viven sus assets
+            Path moduleBase = ModelScanner.moduleBaseDir(modelsRootOf(entry));
+            if (moduleBase == null) continue;
 
-            Map<String, String> textures = parseTextures(project, modId, tipo, modelName);
+            Map<String, String> textures = parseTextures(entry.source());
 
             String displayName = Messages.showInputDialog(
-                    "Nombre en Lang para '" + modelName + "'?",
+                    "Nombre en Lang para '" + modId + ":" + modelName + "'?",
                     "Renombrar Modelo",
                     null,
                     capitalize(modelName),
@@ -146,7 +268,7 @@ public class ImporterDialog extends DialogWrapper {
             if (displayName == null) return; // usuario canceló
 
             CodeGenerator.generate(
-                    project,
+                    moduleBase.toString(),
                     modId,
                     tipo,
                     modelName,
@@ -160,15 +282,11 @@ public class ImporterDialog extends DialogWrapper {
         Messages.showInfoMessage("Generación completada.", "OK");
     }
 
-    private Map<String, String> parseTextures(Project project, String modId, String tipo, String modelName) {
-        String path = project.getBasePath()
-                + "/src/main/resources/assets/" + modId
-                + "/models/" + tipo + "/" + modelName + ".json";
-        VirtualFile file = LocalFileSystem.getInstance().findFileByPath(path);
-        if (file == null) return Collections.emptyMap();
+    private Map<String, String> parseTextures(Path file) {
+        if (!Files.isRegularFile(file)) return Collections.emptyMap();
 
         try {
-            String text = new String(file.contentsToByteArray(), java.nio.charset.StandardCharsets.UTF_8);
+            String text = Files.readString(file, StandardCharsets.UTF_8);
             JsonObject obj = JsonParser.parseString(text).getAsJsonObject();
             Map<String, String> map = new LinkedHashMap<>();
             if (obj.has("textures")) {
@@ -194,6 +312,11 @@ public class ImporterDialog extends DialogWrapper {
         modIdField = new JTextField(15);
         top.add(modIdField);
 
+        // Analiza todos los assets/*/models de todos los módulos; el Mod ID sale de cada carpeta
+        workspaceCheck = new JCheckBox("Todo el proyecto");
+        workspaceCheck.addActionListener(e -> modIdField.setEnabled(!workspaceCheck.isSelected()));
+        top.add(workspaceCheck);
+
         top.add(new JLabel("Plataforma:"));
         platformCombo = new JComboBox<>(new String[]{"Fabric"});
         top.add(platformCombo);
@@ -207,15 +330,49 @@ public class ImporterDialog extends DialogWrapper {
 
         content.add(top, BorderLayout.NORTH);
 
-        listModel = new DefaultListModel<>();
-        modelList = new JList<>(listModel);
-        content.add(new JScrollPane(modelList), BorderLayout.CENTER);
-
-        JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        costModel = new ModelCostTableModel();
+        modelTable = new JTable(costModel) {
+            @Override
+            public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
+                Component c = super.prepareRenderer(renderer, row, column);
+                if (!isRowSelected(row)) {
+                    // Marcar en rojo los modelos que superan algún límite
+                    boolean over = costModel.isOverBudget(convertRowIndexToModel(row));
+                    c.setForeground(over ? Color.RED : getForeground());
+                }
+                return c;
+            }
+        };
+        modelTable.setAutoCreateRowSorter(true);
+        content.add(new JScrollPane(modelTable), BorderLayout.CENTER);
+
+        JPanel budgets = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        CostBudget defaults = CostBudget.DEFAULT;
+        budgets.add(new JLabel("Máx. elementos:"));
+        maxElementsSpinner = new JSpinner(new SpinnerNumberModel(defaults.maxElements(), 0, Integer.MAX_VALUE, 8));
+        budgets.add(maxElementsSpinner);
+        budgets.add(new JLabel("Máx. caras:"));
+        maxFacesSpinner = new JSpinner(new SpinnerNumberModel(defaults.maxFaces(), 0, Integer.MAX_VALUE, 48));
+        budgets.add(maxFacesSpinner);
+        budgets.add(new JLabel("Máx. píxeles:"));
+        maxPixelsSpinner = new JSpinner(new SpinnerNumberModel(
+                Long.valueOf(defaults.maxTexturePixels()), Long.valueOf(0), Long.valueOf(Long.MAX_VALUE), Long.valueOf(4096)));
+        budgets.add(maxPixelsSpinner);
+        budgets.add(new JLabel("Máx. cajas:"));
+        maxBoxesSpinner = new JSpinner(new SpinnerNumberModel(defaults.maxShapeBoxes(), 0, Integer.MAX_VALUE, 1));
+        budgets.add(maxBoxesSpinner);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         analyzeBtn = new JButton("Analizar modelos");
+        exportBtn = new JButton("Exportar informe");
         generateBtn = new JButton("Generar código");
-        bottom.add(analyzeBtn);
-        bottom.add(generateBtn);
+        buttons.add(analyzeBtn);
+        buttons.add(exportBtn);
+        buttons.add(generateBtn);
+
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(budgets, BorderLayout.WEST);
+        bottom.add(buttons, BorderLayout.EAST);
 
         content.add(bottom, BorderLayout.SOUTH);
 
@@ -0,0 +1,91 @@
+package com.tntstudios.blueimporter.ui;
+
+import com.tntstudios.blueimporter.analysis.CostBudget;
+import com.tntstudios.blueimporter.analysis.ModelCost;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tabla de modelos analizados con su coste de render; las columnas numéricas
+ * declaran su tipo para que el ordenado sea numérico y no alfabético.
+ */
+class ModelCostTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {
+            "Namespace", "Modelo", "Elementos", "Caras", "Texturas", "Píxeles textura", "Cajas VoxelShape", "Excede"
+    };
+    private static final Class<?>[] TYPES = {
+            String.class, String.class, Integer.class, Integer.class, Integer.class, Long.class, Integer.class, String.class
+    };
+
+    private final List<ModelCost> rows = new ArrayList<>();
+    private CostBudget budget = CostBudget.DEFAULT;
+
+    void setRows(List<ModelCost> costs) {
+        rows.clear();
+        rows.addAll(costs);
+        fireTableDataChanged();
+    }
+
+    void clear() {
+        rows.clear();
+        fireTableDataChanged();
+    }
+
+    List<ModelCost> getRows() {
+        return List.copyOf(rows);
+    }
+
+    ModelCost getRow(int modelRow) {
+        return rows.get(modelRow);
+    }
+
+    CostBudget getBudget() {
+        return budget;
+    }
+
+    void setBudget(CostBudget budget) {
+        this.budget = budget;
+        fireTableDataChanged();
+    }
+
+    boolean isOverBudget(int modelRow) {
+        return !budget.violations(rows.get(modelRow)).isEmpty();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return TYPES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        ModelCost c = rows.get(rowIndex);
+        return switch (columnIndex) {
+            case 0 -> c.namespace();
+            case 1 -> c.entry();
+            case 2 -> c.elements();
+            case 3 -> c.faces();
+            case 4 -> c.textures();
+            case 5 -> c.texturePixels();
+            case 6 -> c.shapeBoxes();
+            default -> String.join(", ", budget.violations(c));
+        };
+    }
+}